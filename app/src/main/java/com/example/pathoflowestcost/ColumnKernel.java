@@ -0,0 +1,243 @@
+package com.example.pathoflowestcost;
+
+/**
+ * The inner loop of the PathSolver for one specific MoveRule and matrix height
+ * <p>
+ * A kernel is called once per column, from right to left,
+ * so the only virtual call is per column and never per cell.
+ * Everything that can be worked out from the rule alone
+ * (which row each move leads to, what it costs) is done when the kernel is built.
+ * <p>
+ * Cells are ints but accumulated costs are longs,
+ * so the total of even the widest matrix of large values cannot overflow.
+ */
+abstract class ColumnKernel {
+    /**
+     * Marks a cell from which no complete path exists
+     */
+    static final long UNREACHABLE = Long.MAX_VALUE;
+
+    /**
+     * Picks the fastest kernel able to run the rule
+     *
+     * @param rule
+     * @param numRows
+     * @return the kernel
+     */
+    static ColumnKernel forRule(MoveRule rule, int numRows) {
+        if (rule.isDefault()) {
+            return new DefaultKernel();
+        }
+        if (rule.isThreeNeighbours() && !rule.wraps()) {
+            return new NoWrapKernel(rule);
+        }
+        return new GenericKernel(rule, numRows);
+    }
+
+    /**
+     * Computes the cheapest cost from each row of a column to the right edge of the matrix
+     *
+     * @param column the costs of the current column
+     * @param next   the cheapest costs from the column to the right
+     * @param out    receives the cheapest costs from the current column
+     * @param choices receives the index of the move taken from each row,
+     *                from index offset onwards
+     * @param offset  where the current column starts in choices
+     */
+    abstract void step(int[] column, long[] next, long[] out, byte[] choices, int offset);
+
+    /**
+     * Hand-written kernel for MoveRule.DEFAULT
+     * <p>
+     * Prefers above-right, then right, then bellow-right on a tie, like the original implementation.
+     * The first and last row, where the rows wrap, are handled on their own,
+     * so the loop over the rows in between needs no wrapping checks.
+     * The moves are compared one after the other rather than in nested branches,
+     * which the JIT can turn into conditional moves.
+     */
+    static final class DefaultKernel extends ColumnKernel {
+        @Override
+        void step(int[] column, long[] next, long[] out, byte[] choices, int offset) {
+            int last = column.length - 1;
+            if (last == 0) {
+                out[0] = next[0] + column[0];
+                choices[offset] = 0;
+                return;
+            }
+
+            //The first row's bellow-right is the last row
+            pick(column, next[1], next[0], next[last], out, choices, offset, 0);
+            for (int i = 1; i < last; i++) {
+                pick(column, next[i + 1], next[i], next[i - 1], out, choices, offset, i);
+            }
+            //The last row's above-right is the first row
+            pick(column, next[0], next[last], next[last - 1], out, choices, offset, last);
+        }
+
+        private static void pick(int[] column, long costA, long costB, long costC,
+                                 long[] out, byte[] choices, int offset, int i) {
+            long best = costA;  //Cost via the cell above-right
+            byte move = 0;
+            if (costB < best) { //Cost via the cell to the right
+                best = costB;
+                move = 1;
+            }
+            if (costC < best) { //Cost via the cell bellow-right
+                best = costC;
+                move = 2;
+            }
+            out[i] = best + column[i];
+            choices[offset + i] = move;
+        }
+    }
+
+    /**
+     * Hand-written kernel for the three neighbour rule without the wrap, with any surcharges
+     * <p>
+     * The first and last row are handled on their own,
+     * so the loop over the rows in between needs no edge checks.
+     * Moving straight right is always possible, so every cell can reach the right edge.
+     */
+    static final class NoWrapKernel extends ColumnKernel {
+        private final int surchargeA;   //Extra cost of moving above-right
+        private final int surchargeB;   //Extra cost of moving right
+        private final int surchargeC;   //Extra cost of moving bellow-right
+
+        NoWrapKernel(MoveRule rule) {
+            surchargeA = rule.getSurcharge(0);
+            surchargeB = rule.getSurcharge(1);
+            surchargeC = rule.getSurcharge(2);
+        }
+
+        @Override
+        void step(int[] column, long[] next, long[] out, byte[] choices, int offset) {
+            int last = column.length - 1;
+            if (last == 0) {
+                out[0] = next[0] + surchargeB + column[0];
+                choices[offset] = 1;
+                return;
+            }
+
+            //The first row has nothing bellow it
+            long costA = next[1] + surchargeA;
+            long costB = next[0] + surchargeB;
+            if (costA <= costB) {
+                out[0] = costA + column[0];
+                choices[offset] = 0;
+            } else {
+                out[0] = costB + column[0];
+                choices[offset] = 1;
+            }
+
+            for (int i = 1; i < last; i++) {
+                costA = next[i + 1] + surchargeA;
+                costB = next[i] + surchargeB;
+                long costC = next[i - 1] + surchargeC;
+
+                if (costA <= costB) {
+                    if (costA <= costC) {
+                        out[i] = costA + column[i];
+                        choices[offset + i] = 0;
+                    } else {
+                        out[i] = costC + column[i];
+                        choices[offset + i] = 2;
+                    }
+                } else {
+                    if (costB <= costC) {
+                        out[i] = costB + column[i];
+                        choices[offset + i] = 1;
+                    } else {
+                        out[i] = costC + column[i];
+                        choices[offset + i] = 2;
+                    }
+                }
+            }
+
+            //The last row has nothing above it
+            costB = next[last] + surchargeB;
+            long costC = next[last - 1] + surchargeC;
+            if (costB <= costC) {
+                out[last] = costB + column[last];
+                choices[offset + last] = 1;
+            } else {
+                out[last] = costC + column[last];
+                choices[offset + last] = 2;
+            }
+        }
+    }
+
+    /**
+     * Kernel for any MoveRule
+     * <p>
+     * The target row of every move is looked up in a table built for the matrix height,
+     * so wrapping and edges cost nothing inside the loop.
+     * When the rows wrap every move is always possible, so every cell can reach the right edge
+     * and the checks for unreachable cells are skipped.
+     */
+    static final class GenericKernel extends ColumnKernel {
+        private final int[][] targets;      //Target row of each move from each row, or -1
+        private final int[] surcharges;     //Extra cost of each move
+        private final boolean wraps;        //True if no target is ever -1
+
+        GenericKernel(MoveRule rule, int numRows) {
+            wraps = rule.wraps();
+            targets = new int[rule.size()][numRows];
+            surcharges = new int[rule.size()];
+            for (int move = 0; move < rule.size(); move++) {
+                for (int i = 0; i < numRows; i++) {
+                    targets[move][i] = rule.targetRow(i, move, numRows);
+                }
+                surcharges[move] = rule.getSurcharge(move);
+            }
+        }
+
+        @Override
+        void step(int[] column, long[] next, long[] out, byte[] choices, int offset) {
+            if (wraps) {
+                stepWrapping(column, next, out, choices, offset);
+            } else {
+                stepBounded(column, next, out, choices, offset);
+            }
+        }
+
+        private void stepWrapping(int[] column, long[] next, long[] out, byte[] choices, int offset) {
+            int numRows = column.length;
+            int numMoves = targets.length;
+            for (int i = 0; i < numRows; i++) {
+                long best = next[targets[0][i]] + surcharges[0];
+                int bestMove = 0;
+                for (int move = 1; move < numMoves; move++) {
+                    long cost = next[targets[move][i]] + surcharges[move];
+                    if (cost < best) {
+                        best = cost;
+                        bestMove = move;
+                    }
+                }
+                out[i] = best + column[i];
+                choices[offset + i] = (byte) bestMove;
+            }
+        }
+
+        private void stepBounded(int[] column, long[] next, long[] out, byte[] choices, int offset) {
+            int numRows = column.length;
+            int numMoves = targets.length;
+            for (int i = 0; i < numRows; i++) {
+                long best = UNREACHABLE;
+                int bestMove = -1;
+                for (int move = 0; move < numMoves; move++) {
+                    int target = targets[move][i];
+                    if (target < 0 || next[target] == UNREACHABLE) {
+                        continue;
+                    }
+                    long cost = next[target] + surcharges[move];
+                    if (bestMove < 0 || cost < best) {
+                        best = cost;
+                        bestMove = move;
+                    }
+                }
+                out[i] = bestMove < 0 ? UNREACHABLE : best + column[i];
+                choices[offset + i] = (byte) bestMove;
+            }
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package com.example.pathoflowestcost;
+
+/**
+ * The costs of a matrix, stored column by column in the narrowest type that fits them
+ * <p>
+ * Every value is stored as its distance from the smallest value of the matrix,
+ * so when the values span at most 256 (e.g. 0 to 255) a byte per cell is enough,
+ * when they span at most 65536 a short is enough, and only otherwise an int is used.
+ * Each matrix is a single flat array, column by column, indexed x * numRows + y,
+ * so a typical 0 to 255 matrix really takes a byte per cell
+ * rather than paying for an array header on every short column.
+ * parse() reads the input twice, once to find the size and range of the values
+ * and once to fill the chosen storage, so the values are never held in a wider form.
+ * <p>
+ * Readers should prefer readColumn() over get(),
+ * as it only costs one virtual call per column.
+ */
+abstract class CostMatrix {
+    private final int numRows;
+    private final int numColumns;
+
+    CostMatrix(int numRows, int numColumns) {
+        this.numRows = numRows;
+        this.numColumns = numColumns;
+    }
+
+    /**
+     * Parses the matrix format used by the Pathfinder,
+     * comma-separated columns and newline separated rows
+     *
+     * @param input
+     * @return the matrix, using the narrowest storage for its values
+     */
+    static CostMatrix parse(String input) {
+        //First pass, find the size of the matrix and the range of its values
+        final Range range = new Range();
+        int numRows = scan(input, range);
+        if (numRows == 0) {
+            throw new IllegalArgumentException("The matrix is empty");
+        }
+
+        //Second pass, fill the storage
+        final CostMatrix matrix = create(numRows, range.numColumns, range.min, range.max);
+        scan(input, new CellVisitor() {
+            @Override
+            void cell(int x, int y, int value) {
+                matrix.set(x, y, value);
+            }
+        });
+        return matrix;
+    }
+
+    /**
+     * Packs the given columns into the narrowest storage for their values
+     *
+     * @param columns a list of columns, all of the same height
+     * @return the matrix
+     */
+    static CostMatrix fromColumns(int[][] columns) {
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int[] column : columns) {
+            for (int value : column) {
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+        }
+
+        CostMatrix matrix = create(columns[0].length, columns.length, min, max);
+        for (int x = 0; x < columns.length; x++) {
+            for (int y = 0; y < columns[x].length; y++) {
+                matrix.set(x, y, columns[x][y]);
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Creates empty storage, as narrow as the range of values allows
+     *
+     * @param numRows
+     * @param numColumns
+     * @param min        the smallest value that will be stored
+     * @param max        the largest value that will be stored
+     * @return the matrix, to be filled with set()
+     */
+    private static CostMatrix create(int numRows, int numColumns, int min, int max) {
+        long range = (long) max - min;
+        if (range <= 0xFF) {
+            return new ByteColumns(numRows, numColumns, min);
+        } else if (range <= 0xFFFF) {
+            return new ShortColumns(numRows, numColumns, min);
+        } else {
+            return new IntColumns(numRows, numColumns);
+        }
+    }
+
+    /**
+     * Walks through the input one character at a time,
+     * handing every value to the visitor
+     *
+     * @param input
+     * @param visitor
+     * @return the number of rows
+     */
+    private static int scan(String input, CellVisitor visitor) {
+        int row = 0;
+        int column = 0;
+        int cellStart = 0;
+
+        //The end of the input is treated as one last newline
+        for (int i = 0; i <= input.length(); i++) {
+            char c = i < input.length() ? input.charAt(i) : '\n';
+            if (c == ',') {
+                visitor.cell(column++, row, parseCell(input, cellStart, i));
+                cellStart = i + 1;
+            } else if (c == '\n') {
+                //Empty lines, such as a trailing newline, are not rows
+                if (i > cellStart || column > 0) {
+                    visitor.cell(column++, row, parseCell(input, cellStart, i));
+                    visitor.endRow(row, column);
+                    row++;
+                    column = 0;
+                }
+                cellStart = i + 1;
+            }
+        }
+
+        return row;
+    }
+
+    /**
+     * Same as Integer.parseInt(input.substring(start, end)),
+     * without creating the substring
+     *
+     * @param input
+     * @param start
+     * @param end
+     * @return the value
+     */
+    private static int parseCell(String input, int start, int end) {
+        boolean negative = start < end && input.charAt(start) == '-';
+        int i = start < end && (negative || input.charAt(start) == '+') ? start + 1 : start;
+        if (i == end) {
+            throw new NumberFormatException("For input string: \"" + input.substring(start, end) + "\"");
+        }
+
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = Character.digit(input.charAt(i), 10);
+            value = value * 10 + digit;
+            if (digit < 0 || value > (negative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE)) {
+                throw new NumberFormatException("For input string: \"" + input.substring(start, end) + "\"");
+            }
+        }
+        return (int) (negative ? -value : value);
+    }
+
+    /**
+     * The size of a flat array holding the whole matrix
+     *
+     * @param numColumns
+     * @param numRows
+     * @return numColumns * numRows
+     */
+    static int checkedSize(int numColumns, int numRows) {
+        long size = (long) numColumns * numRows;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("A " + numRows + "x" + numColumns + " matrix is too large");
+        }
+        return (int) size;
+    }
+
+    int getNumRows() {
+        return numRows;
+    }
+
+    int getNumColumns() {
+        return numColumns;
+    }
+
+    /**
+     * @param x the column
+     * @param y the row
+     * @return the cost of a single cell
+     */
+    abstract int get(int x, int y);
+
+    /**
+     * Stores the cost of a single cell, which must be within the range the storage was created for
+     *
+     * @param x     the column
+     * @param y     the row
+     * @param value
+     */
+    abstract void set(int x, int y, int value);
+
+    /**
+     * Copies the costs of a column
+     *
+     * @param x    the column
+     * @param into receives the costs, must have one entry per row
+     */
+    abstract void readColumn(int x, int[] into);
+
+    /**
+     * Receives the values found by scan()
+     */
+    private abstract static class CellVisitor {
+        abstract void cell(int x, int y, int value);
+
+        /**
+         * @param y         the row that ended
+         * @param rowLength the number of values in it
+         */
+        void endRow(int y, int rowLength) {
+        }
+    }
+
+    /**
+     * First pass of parse(), checks the rows all have the same length and finds the range of values
+     */
+    private static final class Range extends CellVisitor {
+        int numColumns = -1;
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+
+        @Override
+        void cell(int x, int y, int value) {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+
+        @Override
+        void endRow(int y, int rowLength) {
+            if (numColumns < 0) {
+                numColumns = rowLength;
+            } else if (rowLength != numColumns) {
+                throw new IllegalArgumentException(
+                        "Row " + (y + 1) + " has " + rowLength + " values, expected " + numColumns);
+            }
+        }
+    }
+
+    /**
+     * Storage for values spanning at most 256
+     */
+    static final class ByteColumns extends CostMatrix {
+        private final byte[] cells;    //Column by column, indexed x * numRows + y
+        private final int base;     //The smallest value, which is stored as 0
+
+        ByteColumns(int numRows, int numColumns, int base) {
+            super(numRows, numColumns);
+            this.cells = new byte[checkedSize(numColumns, numRows)];
+            this.base = base;
+        }
+
+        @Override
+        int get(int x, int y) {
+            return base + (cells[x * getNumRows() + y] & 0xFF);
+        }
+
+        @Override
+        void set(int x, int y, int value) {
+            cells[x * getNumRows() + y] = (byte) (value - base);
+        }
+
+        @Override
+        void readColumn(int x, int[] into) {
+            int numRows = getNumRows();
+            int offset = x * numRows;
+            for (int i = 0; i < numRows; i++) {
+                into[i] = base + (cells[offset + i] & 0xFF);
+            }
+        }
+    }
+
+    /**
+     * Storage for values spanning at most 65536
+     */
+    static final class ShortColumns extends CostMatrix {
+        private final short[] cells;    //Column by column, indexed x * numRows + y
+        private final int base;     //The smallest value, which is stored as 0
+
+        ShortColumns(int numRows, int numColumns, int base) {
+            super(numRows, numColumns);
+            this.cells = new short[checkedSize(numColumns, numRows)];
+            this.base = base;
+        }
+
+        @Override
+        int get(int x, int y) {
+            return base + (cells[x * getNumRows() + y] & 0xFFFF);
+        }
+
+        @Override
+        void set(int x, int y, int value) {
+            cells[x * getNumRows() + y] = (short) (value - base);
+        }
+
+        @Override
+        void readColumn(int x, int[] into) {
+            int numRows = getNumRows();
+            int offset = x * numRows;
+            for (int i = 0; i < numRows; i++) {
+                into[i] = base + (cells[offset + i] & 0xFFFF);
+            }
+        }
+    }
+
+    /**
+     * Storage for any other values
+     */
+    static final class IntColumns extends CostMatrix {
+        private final int[] cells;      //Column by column, indexed x * numRows + y
+
+        IntColumns(int numRows, int numColumns) {
+            super(numRows, numColumns);
+            this.cells = new int[checkedSize(numColumns, numRows)];
+        }
+
+        @Override
+        int get(int x, int y) {
+            return cells[x * getNumRows() + y];
+        }
+
+        @Override
+        void set(int x, int y, int value) {
+            cells[x * getNumRows() + y] = value;
+        }
+
+        @Override
+        void readColumn(int x, int[] into) {
+            System.arraycopy(cells, x * getNumRows(), into, 0, getNumRows());
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.pathoflowestcost;
+
+import java.util.Arrays;
+
+/**
+ * The set of steps a path may take from one column to the next
+ * <p>
+ * Each move is a row offset (positive is "above", as in Pathfinder.getNextYAbove)
+ * paired with a surcharge that is added to the path's cost whenever the move is taken.
+ * The order of the moves is also the tie-breaking order:
+ * when two moves produce the same cost, the one listed first wins.
+ * <p>
+ * The original rule set (above-right, right, bellow-right, with the rows wrapping)
+ * is available as DEFAULT, and is solved by a dedicated kernel.
+ */
+public final class MoveRule {
+    /**
+     * Above-right, right and bellow-right, where the first and last row are adjacent
+     */
+    public static final MoveRule DEFAULT = new MoveRule(new int[]{1, 0, -1}, new int[]{0, 0, 0}, true);
+
+    private final int[] offsets;    //Row offset of each move
+    private final int[] surcharges; //Extra cost of each move
+    private final boolean wraps;    //True if the first and last row are adjacent
+
+    MoveRule(int[] offsets, int[] surcharges, boolean wraps) {
+        if (offsets.length == 0) {
+            throw new IllegalArgumentException("A move rule needs at least one move");
+        }
+        if (offsets.length > Byte.MAX_VALUE) {
+            //The solver remembers the move taken from each cell in a byte
+            throw new IllegalArgumentException("A move rule can have at most " + Byte.MAX_VALUE + " moves");
+        }
+        if (offsets.length != surcharges.length) {
+            throw new IllegalArgumentException("Expected " + offsets.length + " surcharges, got " + surcharges.length);
+        }
+        this.offsets = offsets.clone();
+        this.surcharges = surcharges.clone();
+        this.wraps = wraps;
+    }
+
+    /**
+     * The three neighbour rule, optionally without the wrap between the first and last row
+     *
+     * @param wraps
+     * @return the rule
+     */
+    public static MoveRule threeNeighbours(boolean wraps) {
+        return wraps ? DEFAULT : new MoveRule(new int[]{1, 0, -1}, new int[]{0, 0, 0}, false);
+    }
+
+    /**
+     * A rule allowing any row within the given distance of the current one,
+     * e.g. a reach of 2 allows moving up to two rows up or down
+     *
+     * @param reach the largest row offset allowed, at most 63
+     * @param wraps
+     * @return the rule, with moves ordered from the furthest above to the furthest bellow
+     */
+    public static MoveRule reach(int reach, boolean wraps) {
+        if (reach < 0) {
+            throw new IllegalArgumentException("Reach must not be negative: " + reach);
+        }
+        int[] offsets = new int[2 * reach + 1];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = reach - i;
+        }
+        return new MoveRule(offsets, new int[offsets.length], wraps);
+    }
+
+    /**
+     * Copy of this rule with a surcharge for each move
+     *
+     * @param surcharges one per move, in the same order as the moves
+     * @return the new rule
+     */
+    public MoveRule withSurcharges(int... surcharges) {
+        return new MoveRule(offsets, surcharges, wraps);
+    }
+
+    /**
+     * Whether this rule is the original rule set,
+     * in which case the hand-written kernel can be used
+     *
+     * @return true if equivalent to DEFAULT
+     */
+    boolean isDefault() {
+        return wraps
+                && Arrays.equals(offsets, DEFAULT.offsets)
+                && Arrays.equals(surcharges, DEFAULT.surcharges);
+    }
+
+    /**
+     * Whether this rule has the moves of the original rule set
+     * (above-right, right, bellow-right, in that order),
+     * regardless of wrapping and surcharges
+     *
+     * @return true if the moves are the same as DEFAULT's
+     */
+    boolean isThreeNeighbours() {
+        return Arrays.equals(offsets, DEFAULT.offsets);
+    }
+
+    int size() {
+        return offsets.length;
+    }
+
+    int getOffset(int move) {
+        return offsets[move];
+    }
+
+    int getSurcharge(int move) {
+        return surcharges[move];
+    }
+
+    boolean wraps() {
+        return wraps;
+    }
+
+    /**
+     * Finds the row a move leads to
+     *
+     * @param currentY
+     * @param move     index of the move
+     * @param numRows
+     * @return the row in the next column, or -1 if the move leaves the matrix
+     */
+    int targetRow(int currentY, int move, int numRows) {
+        int nextY = currentY + offsets[move];
+        if (wraps) {
+            nextY = nextY % numRows;
+            return nextY < 0 ? nextY + numRows : nextY;
+        } else if (nextY < 0 || nextY >= numRows) {
+            return -1;
+        } else {
+            return nextY;
+        }
+    }
+
+    /**
+     * Finds the row a move came from, the opposite of targetRow()
+     *
+     * @param nextY   the row in the next column
+     * @param move    index of the move
+     * @param numRows
+     * @return the row in the previous column, or -1 if the move cannot lead to nextY
+     */
+    int sourceRow(int nextY, int move, int numRows) {
+        int currentY = nextY - offsets[move];
+        if (wraps) {
+            currentY = currentY % numRows;
+            return currentY < 0 ? currentY + numRows : currentY;
+        } else if (currentY < 0 || currentY >= numRows) {
+            return -1;
+        } else {
+            return currentY;
+        }
+    }
+}
@@ -14,10 +14,16 @@ import java.util.List;
  * however, trying to output the path using the toString() will validate.
  */
 public class Path {
+    /**
+     * The most a path may cost, a path whose next step would go over it is abandoned
+     */
+    static final int MAX_COST = 50;
+
     private boolean success;    //True if totalCost is <= 50
-    private int totalCost;      //The sum of all costs in the path
+    private long totalCost;     //The sum of all costs in the path, wide enough not to overflow
     private List<Cell> pathReversed;    //The sequence of cells in the path
     private boolean badPath = false;    //Used when a path's next step would be over 50 total
+    private long surcharge = 0;     //Extra cost of the moves taken, on top of the cells' costs
 
     /**
      * Constructor when the first cell is known
@@ -39,6 +45,7 @@ public class Path {
     Path(Path path) {
         this.success = path.success;
         this.totalCost = path.totalCost;
+        this.surcharge = path.surcharge;
         this.pathReversed = new ArrayList<>();
         this.pathReversed.addAll(path.pathReversed);
     }
@@ -61,6 +68,15 @@ public class Path {
         pathReversed.add(cell);
     }
 
+    /**
+     * Adds the extra cost of a move, for rules where moves are not free
+     *
+     * @param cost
+     */
+    void addSurcharge(long cost) {
+        surcharge = surcharge + cost;
+    }
+
     /**
      * Used when navigation through the matrix is complete
      *
@@ -73,10 +89,10 @@ public class Path {
     }
 
     /**
-     * Recalculates the sum total of all cell's costs
+     * Recalculates the sum total of all cell's costs and move surcharges
      */
     private void validateCost() {
-        totalCost = 0;
+        totalCost = surcharge;
 
         for (Cell cell : pathReversed) {
             totalCost = totalCost + cell.getCost();
@@ -88,7 +104,7 @@ public class Path {
      * where the total cost must not be greater than 50
      */
     private void validateSuccess() {
-        success = !badPath && totalCost <= 50;
+        success = !badPath && totalCost <= MAX_COST;
     }
 
     /**
@@ -104,6 +120,11 @@ public class Path {
         StringBuilder stringBuilder = new StringBuilder("");
         stringBuilder.append(success ? "Yes\n" : "No\n").append(totalCost).append("\n[");
 
+        //A path abandoned before its first cell
+        if (pathReversed.isEmpty()) {
+            return stringBuilder.append("]").toString();
+        }
+
         List<Cell> reverse = reverse();
         for(int i = 0; i < reverse.size()-1; i++){
             if (reverse.get(i) != null) {
@@ -122,7 +143,7 @@ public class Path {
      *
      * @return the total cost of the path
      */
-    int getTotalCost() {
+    long getTotalCost() {
         return totalCost;
     }
 
@@ -0,0 +1,215 @@
+package com.example.pathoflowestcost;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds the cheapest path through a matrix for a given MoveRule
+ * <p>
+ * Works from right to left like the original implementation:
+ * each column only needs the cheapest cost from every row of the column to its right.
+ * The per-column work is delegated to a ColumnKernel picked for the rule,
+ * and the move taken from every cell is remembered so the path can be rebuilt afterwards.
+ * <p>
+ * A path is abandoned as soon as its next step would take its running total over Path.MAX_COST.
+ * Usually the cheapest path never gets there and is the answer.
+ * When it does, the solver falls back to a left to right search that drops every path going over,
+ * which finds the cheapest path crossing the whole matrix within the limit (even with negative costs),
+ * or else the cheapest of the paths that get furthest before being abandoned.
+ */
+final class PathSolver {
+    private final MoveRule rule;
+
+    PathSolver(MoveRule rule) {
+        this.rule = rule;
+    }
+
+    /**
+     * Finds the cheapest path using the best kernel for the rule
+     *
+     * @param matrix
+     * @return the cheapest path, or the furthest reaching one if no path crosses the matrix within the limit
+     */
+    Path solve(CostMatrix matrix) {
+        return solve(matrix, ColumnKernel.forRule(rule, matrix.getNumRows()));
+    }
+
+    /**
+     * Finds the cheapest path using a specific kernel
+     * <p>
+     * The kernel must have been built for this solver's rule and the matrix height
+     *
+     * @param matrix
+     * @param kernel
+     * @return the cheapest path, or the furthest reaching one if no path crosses the matrix within the limit
+     */
+    Path solve(CostMatrix matrix, ColumnKernel kernel) {
+        int numColumns = matrix.getNumColumns();
+        int numRows = matrix.getNumRows();
+
+        //The costs of the current column, unpacked from the matrix's storage
+        int[] column = new int[numRows];
+        //Cheapest cost from each row of the current column, and from the column to its right
+        long[] costs = new long[numRows];
+        long[] scratch = new long[numRows];
+        //The move taken from each cell, for every column but the last, indexed x * numRows + y
+        //A byte each, as a MoveRule has at most Byte.MAX_VALUE moves
+        byte[] choices = new byte[CostMatrix.checkedSize(numColumns - 1, numRows)];
+
+        matrix.readColumn(numColumns - 1, column);
+        for (int i = 0; i < numRows; i++) {
+            costs[i] = column[i];
+        }
+
+        for (int x = numColumns - 2; x >= 0; x--) {
+            matrix.readColumn(x, column);
+            kernel.step(column, costs, scratch, choices, x * numRows);
+            long[] swap = costs;
+            costs = scratch;
+            scratch = swap;
+        }
+
+        //Of all starting rows, find the best
+        int start = -1;
+        for (int i = 0; i < numRows; i++) {
+            if (costs[i] != ColumnKernel.UNREACHABLE && (start < 0 || costs[i] < costs[start])) {
+                start = i;
+            }
+        }
+        Path cheapest = start < 0 ? null : buildPath(matrix, choices, start);
+        return cheapest != null ? cheapest : abandonedPath(matrix);
+    }
+
+    /**
+     * Follows the remembered moves from the starting row to the right edge
+     *
+     * @param matrix
+     * @param choices the move taken from each cell, indexed x * numRows + y
+     * @param start   the row of the first cell
+     * @return the path, or null if it would be abandoned for going over Path.MAX_COST
+     */
+    private Path buildPath(CostMatrix matrix, byte[] choices, int start) {
+        int numRows = matrix.getNumRows();
+        List<Cell> cells = new ArrayList<>();
+        long surcharge = 0;
+        long runningTotal = 0;
+
+        int y = start;
+        for (int x = 0; x < matrix.getNumColumns(); x++) {
+            int cost = matrix.get(x, y);
+            runningTotal = runningTotal + cost;
+            if (runningTotal > Path.MAX_COST) {
+                return null;
+            }
+            cells.add(new Cell(y, x, cost));
+            if (x < matrix.getNumColumns() - 1) {
+                int move = choices[x * numRows + y];
+                surcharge = surcharge + rule.getSurcharge(move);
+                runningTotal = runningTotal + rule.getSurcharge(move);
+                y = rule.targetRow(y, move, numRows);
+            }
+        }
+
+        //Path stores its cells from right to left
+        Path path = new Path();
+        for (int i = cells.size() - 1; i >= 0; i--) {
+            path.add(cells.get(i));
+        }
+        path.addSurcharge(surcharge);
+        path.validatePath();
+        return path;
+    }
+
+    /**
+     * Searches from left to right, dropping every path whose running total goes over Path.MAX_COST
+     * <p>
+     * Keeping only the cheapest path into each cell is safe:
+     * if any path into a cell stays within the limit, the cheapest one does too.
+     * Ties go to the first listed move into the cell, and then to the lowest final row.
+     *
+     * @param matrix
+     * @return the cheapest path reaching furthest right, marked bad unless it crosses the whole matrix
+     */
+    private Path abandonedPath(CostMatrix matrix) {
+        int numColumns = matrix.getNumColumns();
+        int numRows = matrix.getNumRows();
+
+        int[] column = new int[numRows];
+        //Cheapest running total into each row of the current column, or UNREACHABLE
+        long[] costs = new long[numRows];
+        long[] scratch = new long[numRows];
+        //The move taken into each cell, for every column but the first, indexed x * numRows + y
+        byte[] moves = new byte[CostMatrix.checkedSize(numColumns, numRows)];
+
+        matrix.readColumn(0, column);
+        int lastColumn = -1;
+        for (int i = 0; i < numRows; i++) {
+            costs[i] = column[i] <= Path.MAX_COST ? column[i] : ColumnKernel.UNREACHABLE;
+            if (costs[i] != ColumnKernel.UNREACHABLE) {
+                lastColumn = 0;
+            }
+        }
+
+        for (int x = 1; lastColumn == x - 1 && x < numColumns; x++) {
+            matrix.readColumn(x, column);
+            for (int i = 0; i < numRows; i++) {
+                scratch[i] = ColumnKernel.UNREACHABLE;
+            }
+            for (int i = 0; i < numRows; i++) {
+                if (costs[i] == ColumnKernel.UNREACHABLE) {
+                    continue;
+                }
+                for (int move = 0; move < rule.size(); move++) {
+                    int nextY = rule.targetRow(i, move, numRows);
+                    if (nextY < 0) {
+                        continue;
+                    }
+                    long cost = costs[i] + rule.getSurcharge(move) + column[nextY];
+                    int index = x * numRows + nextY;
+                    if (cost <= Path.MAX_COST && (cost < scratch[nextY]
+                            || (cost == scratch[nextY] && move < moves[index]))) {
+                        scratch[nextY] = cost;
+                        moves[index] = (byte) move;
+                        lastColumn = x;
+                    }
+                }
+            }
+            if (lastColumn == x) {
+                long[] swap = costs;
+                costs = scratch;
+                scratch = swap;
+            }
+        }
+
+        //Even the first column is over the limit
+        Path path = new Path();
+        if (lastColumn < 0) {
+            path.setBadPath();
+            path.validatePath();
+            return path;
+        }
+
+        //Of all the rows reached in the last column, find the best
+        int y = -1;
+        for (int i = 0; i < numRows; i++) {
+            if (costs[i] != ColumnKernel.UNREACHABLE && (y < 0 || costs[i] < costs[y])) {
+                y = i;
+            }
+        }
+
+        //Path stores its cells from right to left, the order the moves are followed back in
+        for (int x = lastColumn; x >= 0; x--) {
+            path.add(new Cell(y, x, matrix.get(x, y)));
+            if (x > 0) {
+                int move = moves[x * numRows + y];
+                path.addSurcharge(rule.getSurcharge(move));
+                y = rule.sourceRow(y, move, numRows);
+            }
+        }
+        if (lastColumn < numColumns - 1) {
+            path.setBadPath();
+        }
+        path.validatePath();
+        return path;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.pathoflowestcost;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the CostMatrix class
+ */
+public class CostMatrixTest {
+
+    @Test
+    public void parse() throws Exception {
+        CostMatrix matrix = CostMatrix.parse("1,2,3\n4,5,6\n");
+        assertEquals(2, matrix.getNumRows());
+        assertEquals(3, matrix.getNumColumns());
+        assertEquals(1, matrix.get(0, 0));
+        assertEquals(6, matrix.get(2, 1));
+
+        int[] column = new int[2];
+        matrix.readColumn(1, column);
+        assertEquals(2, column[0]);
+        assertEquals(5, column[1]);
+    }
+
+    @Test
+    public void parseSingleColumn() throws Exception {
+        CostMatrix matrix = CostMatrix.parse("5\n8\n5\n3\n5");
+        assertEquals(5, matrix.getNumRows());
+        assertEquals(1, matrix.getNumColumns());
+        assertEquals(3, matrix.get(0, 3));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseRaggedRows() throws Exception {
+        CostMatrix.parse("1,2,3\n4,5");
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void parseNotANumber() throws Exception {
+        CostMatrix.parse("1,a,3");
+    }
+
+    @Test
+    public void byteStorage() throws Exception {
+        CostMatrix matrix = CostMatrix.parse("0,255\n128,127");
+        assertTrue(matrix instanceof CostMatrix.ByteColumns);
+        assertEquals(255, matrix.get(1, 0));
+        assertEquals(128, matrix.get(0, 1));
+    }
+
+    @Test
+    public void byteStorageWithNegatives() throws Exception {
+        CostMatrix matrix = CostMatrix.parse("6,3,-5,9\n-5,2,4,10");
+        assertTrue(matrix instanceof CostMatrix.ByteColumns);
+        assertEquals(-5, matrix.get(2, 0));
+        assertEquals(10, matrix.get(3, 1));
+    }
+
+    @Test
+    public void shortStorage() throws Exception {
+        CostMatrix matrix = CostMatrix.parse("0,256\n-1000,60000");
+        assertTrue(matrix instanceof CostMatrix.ShortColumns);
+        assertEquals(-1000, matrix.get(0, 1));
+        assertEquals(60000, matrix.get(1, 1));
+    }
+
+    @Test
+    public void intStorage() throws Exception {
+        CostMatrix matrix = CostMatrix.parse("-2147483648,2147483647");
+        assertTrue(matrix instanceof CostMatrix.IntColumns);
+        assertEquals(Integer.MIN_VALUE, matrix.get(0, 0));
+        assertEquals(Integer.MAX_VALUE, matrix.get(1, 0));
+    }
+
+    @Test(timeout = 5000)
+    public void parseTallSingleColumn() throws Exception {
+        //A search for the next comma that is not limited to the line makes this quadratic
+        StringBuilder s = new StringBuilder();
+        for (int i = 0; i < 500000; i++) {
+            s.append(i % 200).append('\n');
+        }
+        CostMatrix matrix = CostMatrix.parse(s.toString());
+        assertEquals(500000, matrix.getNumRows());
+        assertEquals(1, matrix.getNumColumns());
+        assertEquals(199, matrix.get(0, 499999));
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void parseEmptyValue() throws Exception {
+        CostMatrix.parse("1,,3");
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void parseTooLarge() throws Exception {
+        CostMatrix.parse("1,2147483648");
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void parseSignOnly() throws Exception {
+        CostMatrix.parse("1,-");
+    }
+
+    @Test
+    public void parseSigns() throws Exception {
+        CostMatrix matrix = CostMatrix.parse("+7,-2147483648");
+        assertEquals(7, matrix.get(0, 0));
+        assertEquals(Integer.MIN_VALUE, matrix.get(1, 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooLargeForOneArray() throws Exception {
+        CostMatrix.checkedSize(65536, 65536);
+    }
+}
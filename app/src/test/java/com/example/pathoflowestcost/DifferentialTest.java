@@ -0,0 +1,258 @@
+package com.example.pathoflowestcost;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Differential tests cross-checking every way of solving a matrix
+ * against the oracles in ReferencePathfinder
+ * <p>
+ * Matrices of random shapes and value ranges are generated from a fixed seed,
+ * which can be changed with -Dpathfinder.seed (./gradlew test -PpathfinderSeed=...) to explore new cases.
+ * A failure prints the seed, rule and matrix needed to reproduce it.
+ * Paths are compared through toString(), which covers the success flag,
+ * the total cost and the row chosen in every column.
+ * <p>
+ * The soak test runs the same checks on larger matrices for a number of seconds
+ * and reports the throughput of each engine, and of the original implementation on the default rule.
+ * Input strings are built before the clock starts, so every engine is timed on the same work.
+ * It only runs when -Dpathfinder.soak=&lt;seconds&gt; is set (./gradlew test -PsoakSeconds=...).
+ */
+public class DifferentialTest {
+    private static final int CASES = 2000;
+
+    /**
+     * One way of solving a matrix
+     * <p>
+     * New solver modes only need to be added to ENGINES to be checked
+     */
+    private abstract static class Engine {
+        final String name;
+
+        Engine(String name) {
+            this.name = name;
+        }
+
+        /**
+         * @param columns the matrix, as a list of columns
+         * @param input   the same matrix in the Pathfinder's input format
+         * @param rule
+         * @return the cheapest path
+         */
+        abstract Path solve(int[][] columns, String input, MoveRule rule);
+    }
+
+    private static final Engine[] ENGINES = {
+            new Engine("findPath") {
+                @Override
+                Path solve(int[][] columns, String input, MoveRule rule) {
+                    return Pathfinder.findPath(input, rule);
+                }
+            },
+            new Engine("selected kernel") {
+                @Override
+                Path solve(int[][] columns, String input, MoveRule rule) {
+                    return new PathSolver(rule).solve(CostMatrix.fromColumns(columns));
+                }
+            },
+            new Engine("generic kernel") {
+                @Override
+                Path solve(int[][] columns, String input, MoveRule rule) {
+                    return new PathSolver(rule).solve(CostMatrix.fromColumns(columns),
+                            new ColumnKernel.GenericKernel(rule, columns[0].length));
+                }
+            },
+            new Engine("int storage") {
+                @Override
+                Path solve(int[][] columns, String input, MoveRule rule) {
+                    CostMatrix matrix = new CostMatrix.IntColumns(columns[0].length, columns.length);
+                    for (int x = 0; x < columns.length; x++) {
+                        for (int y = 0; y < columns[x].length; y++) {
+                            matrix.set(x, y, columns[x][y]);
+                        }
+                    }
+                    return new PathSolver(rule).solve(matrix);
+                }
+            },
+    };
+
+    private static final MoveRule[] RULES = {
+            MoveRule.DEFAULT,
+            MoveRule.threeNeighbours(false),
+            MoveRule.threeNeighbours(false).withSurcharges(0, 2, 1),
+            MoveRule.reach(0, true),
+            MoveRule.reach(2, true),
+            MoveRule.reach(2, false),
+            MoveRule.DEFAULT.withSurcharges(3, 0, 1),
+            MoveRule.reach(2, false).withSurcharges(-2, 1, 0, 1, 4),
+            new MoveRule(new int[]{1}, new int[]{0}, false),
+    };
+
+    @Test
+    public void defaultRuleMatchesOriginalImplementation() throws Exception {
+        long seed = seed();
+        Random random = new Random(seed);
+        for (int n = 0; n < CASES; n++) {
+            int[][] columns = randomMatrix(random, 1 + random.nextInt(12), 1 + random.nextInt(12));
+            String input = toInput(columns);
+            String expected = ReferencePathfinder.findPathWithinLimit(input);
+            for (Engine engine : ENGINES) {
+                check(seed, engine, MoveRule.DEFAULT, columns, expected, engine.solve(columns, input, MoveRule.DEFAULT));
+            }
+        }
+    }
+
+    @Test
+    public void everyRuleMatchesBruteForce() throws Exception {
+        long seed = seed();
+        Random random = new Random(seed);
+        for (int n = 0; n < CASES; n++) {
+            MoveRule rule = RULES[random.nextInt(RULES.length)];
+            int[][] columns = randomMatrix(random, 1 + random.nextInt(5), 1 + random.nextInt(6));
+            String input = toInput(columns);
+            String expected = ReferencePathfinder.bruteForce(columns, rule);
+            for (Engine engine : ENGINES) {
+                check(seed, engine, rule, columns, expected, engine.solve(columns, input, rule));
+            }
+        }
+    }
+
+    @Test
+    public void soak() throws Exception {
+        String soakSeconds = System.getProperty("pathfinder.soak");
+        Assume.assumeTrue(soakSeconds != null && !soakSeconds.isEmpty());
+
+        long seed = seed();
+        Random random = new Random(seed);
+        long end = System.nanoTime() + Long.parseLong(soakSeconds) * 1000000000L;
+        long[] nanos = new long[ENGINES.length];
+        long referenceNanos = 0;
+        long matrices = 0;
+        long cells = 0;
+        long defaultMatrices = 0;
+        long defaultCells = 0;
+
+        while (System.nanoTime() < end) {
+            MoveRule rule = RULES[random.nextInt(RULES.length)];
+            int[][] columns = randomMatrix(random, 1 + random.nextInt(64), 1 + random.nextInt(256));
+            String input = toInput(columns);
+            long size = (long) columns.length * columns[0].length;
+
+            //Brute force is out of the question at this size, and the original implementation
+            //only knows the default rule, so other rules only check the engines agree with each other
+            Path[] actual = new Path[ENGINES.length];
+            for (int i = 0; i < ENGINES.length; i++) {
+                long start = System.nanoTime();
+                actual[i] = ENGINES[i].solve(columns, input, rule);
+                nanos[i] += System.nanoTime() - start;
+            }
+
+            String expected;
+            if (rule.isDefault()) {
+                long start = System.nanoTime();
+                expected = ReferencePathfinder.findPathWithinLimit(input);
+                referenceNanos += System.nanoTime() - start;
+                defaultMatrices++;
+                defaultCells += size;
+            } else {
+                expected = String.valueOf(actual[0]);
+            }
+            for (int i = 0; i < ENGINES.length; i++) {
+                check(seed, ENGINES[i], rule, columns, expected, actual[i]);
+            }
+            matrices++;
+            cells += size;
+        }
+
+        System.out.println("Soak: " + matrices + " matrices, " + cells + " cells, seed " + seed);
+        for (int i = 0; i < ENGINES.length; i++) {
+            printThroughput(ENGINES[i].name, matrices, cells, nanos[i]);
+        }
+        System.out.println("Default rule only: " + defaultMatrices + " matrices, " + defaultCells + " cells");
+        printThroughput("original findPath", defaultMatrices, defaultCells, referenceNanos);
+    }
+
+    private static void printThroughput(String name, long matrices, long cells, long nanos) {
+        double seconds = Math.max(nanos, 1) / 1e9;
+        System.out.println(String.format("  %-18s %12.0f matrices/s %14.0f cells/s",
+                name, matrices / seconds, cells / seconds));
+    }
+
+    private static void check(long seed, Engine engine, MoveRule rule, int[][] columns,
+                              String expected, Path actual) {
+        assertEquals(engine.name + " disagrees, seed " + seed + ", rule " + describe(rule)
+                        + ", matrix:\n" + toInput(columns) + "\n",
+                expected, String.valueOf(actual));
+    }
+
+    private static long seed() {
+        String seed = System.getProperty("pathfinder.seed");
+        return seed == null || seed.isEmpty() ? 28L : Long.parseLong(seed);
+    }
+
+    /**
+     * Generates a matrix whose values are drawn from one of several ranges,
+     * so that every storage width, negative costs, many ties and overflow all get covered
+     *
+     * @param random
+     * @param numRows
+     * @param numColumns
+     * @return the matrix, as a list of columns
+     */
+    private static int[][] randomMatrix(Random random, int numRows, int numColumns) {
+        int kind = random.nextInt(5);
+        int[][] columns = new int[numColumns][numRows];
+        for (int[] column : columns) {
+            for (int i = 0; i < numRows; i++) {
+                switch (kind) {
+                    case 0:     //Few distinct values, lots of ties
+                        column[i] = random.nextInt(3);
+                        break;
+                    case 1:     //Byte storage
+                        column[i] = random.nextInt(256);
+                        break;
+                    case 2:     //Negative values
+                        column[i] = random.nextInt(41) - 20;
+                        break;
+                    case 3:     //Short storage
+                        column[i] = random.nextInt(60000) - 1000;
+                        break;
+                    default:    //Int storage, totals well past the int range
+                        column[i] = random.nextBoolean() ? random.nextInt() : Integer.MAX_VALUE - random.nextInt(3);
+                        break;
+                }
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * @param columns
+     * @return the matrix in the Pathfinder's input format
+     */
+    private static String toInput(int[][] columns) {
+        StringBuilder stringBuilder = new StringBuilder();
+        for (int j = 0; j < columns[0].length; j++) {
+            for (int i = 0; i < columns.length; i++) {
+                stringBuilder.append(columns[i][j]).append(i < columns.length - 1 ? "," : "\n");
+            }
+        }
+        return stringBuilder.toString();
+    }
+
+    private static String describe(MoveRule rule) {
+        int[] offsets = new int[rule.size()];
+        int[] surcharges = new int[rule.size()];
+        for (int move = 0; move < rule.size(); move++) {
+            offsets[move] = rule.getOffset(move);
+            surcharges[move] = rule.getSurcharge(move);
+        }
+        return "offsets " + Arrays.toString(offsets) + " surcharges " + Arrays.toString(surcharges)
+                + (rule.wraps() ? " wrapping" : " not wrapping");
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.pathoflowestcost;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the MoveRule class and the kernels that run it
+ */
+public class MoveRuleTest {
+
+    @Test
+    public void targetRowWraps() throws Exception {
+        MoveRule rule = MoveRule.DEFAULT;
+        assertEquals(0, rule.targetRow(4, 0, 5));
+        assertEquals(4, rule.targetRow(4, 1, 5));
+        assertEquals(4, rule.targetRow(0, 2, 5));
+    }
+
+    @Test
+    public void targetRowWithoutWrap() throws Exception {
+        MoveRule rule = MoveRule.threeNeighbours(false);
+        assertEquals(-1, rule.targetRow(4, 0, 5));
+        assertEquals(-1, rule.targetRow(0, 2, 5));
+        assertEquals(1, rule.targetRow(0, 0, 5));
+    }
+
+    @Test
+    public void targetRowWrapsFurtherThanTheMatrix() throws Exception {
+        MoveRule rule = MoveRule.reach(2, true);    //Offsets 2, 1, 0, -1, -2
+        for (int move = 0; move < rule.size(); move++) {
+            assertEquals(0, rule.targetRow(0, move, 1));
+        }
+        assertEquals(0, rule.targetRow(0, 0, 2));
+        assertEquals(1, rule.targetRow(0, 1, 2));
+        assertEquals(0, rule.targetRow(0, 2, 2));
+        assertEquals(1, rule.targetRow(0, 3, 2));
+        assertEquals(0, rule.targetRow(0, 4, 2));
+        assertEquals(1, rule.targetRow(1, 0, 2));
+        assertEquals(1, rule.targetRow(1, 4, 2));
+    }
+
+    @Test
+    public void isDefault() throws Exception {
+        assertTrue(MoveRule.threeNeighbours(true).isDefault());
+        assertTrue(MoveRule.reach(1, true).isDefault());
+        assertTrue(MoveRule.DEFAULT.withSurcharges(0, 0, 0).isDefault());
+        assertFalse(MoveRule.threeNeighbours(false).isDefault());
+        assertFalse(MoveRule.reach(2, true).isDefault());
+        assertFalse(MoveRule.DEFAULT.withSurcharges(1, 0, 1).isDefault());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooManyMoves() throws Exception {
+        MoveRule.reach(64, true);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void wrongNumberOfSurcharges() throws Exception {
+        MoveRule.DEFAULT.withSurcharges(1, 1);
+    }
+
+    @Test
+    public void noWrap() throws Exception {
+        String s = "1,9\n9,9\n9,1";
+        assertEquals(2, Pathfinder.findPath(s).getTotalCost());
+        assertEquals(10, Pathfinder.findPath(s, MoveRule.threeNeighbours(false)).getTotalCost());
+    }
+
+    @Test
+    public void reachOfTwo() throws Exception {
+        String s = "1,9\n9,9\n9,1\n9,9\n9,9";
+        assertEquals(10, Pathfinder.findPath(s, MoveRule.threeNeighbours(false)).getTotalCost());
+        assertEquals(2, Pathfinder.findPath(s, MoveRule.reach(2, false)).getTotalCost());
+    }
+
+    @Test
+    public void surcharges() throws Exception {
+        String s = "1,9\n9,1";
+        Path path = Pathfinder.findPath(s, MoveRule.DEFAULT.withSurcharges(5, 0, 5));
+        assertEquals(7, path.getTotalCost());
+        assertEquals("Yes\n7\n[1 2]", path.toString());
+    }
+
+    @Test
+    public void noCompletePath() throws Exception {
+        MoveRule upOnly = new MoveRule(new int[]{1}, new int[]{0}, false);
+        assertEquals("No\n2\n[1 2]", Pathfinder.findPath("1,1,1\n1,1,1", upOnly).toString());
+    }
+
+    @Test
+    public void genericKernelMatchesDefaultKernel() throws Exception {
+        Random random = new Random(26);
+        PathSolver solver = new PathSolver(MoveRule.DEFAULT);
+        for (int n = 0; n < 500; n++) {
+            int[][] columns = new int[1 + random.nextInt(8)][1 + random.nextInt(8)];
+            for (int[] column : columns) {
+                for (int i = 0; i < column.length; i++) {
+                    column[i] = random.nextInt(10);
+                }
+            }
+            CostMatrix matrix = CostMatrix.fromColumns(columns);
+            ColumnKernel generic = new ColumnKernel.GenericKernel(MoveRule.DEFAULT, columns[0].length);
+            assertEquals(solver.solve(matrix).toString(), solver.solve(matrix, generic).toString());
+        }
+    }
+
+    @Test
+    public void forRule() throws Exception {
+        assertTrue(ColumnKernel.forRule(MoveRule.DEFAULT, 5) instanceof ColumnKernel.DefaultKernel);
+        assertTrue(ColumnKernel.forRule(MoveRule.threeNeighbours(false), 5) instanceof ColumnKernel.NoWrapKernel);
+        assertTrue(ColumnKernel.forRule(MoveRule.threeNeighbours(false).withSurcharges(1, 0, 2), 5)
+                instanceof ColumnKernel.NoWrapKernel);
+        assertTrue(ColumnKernel.forRule(MoveRule.DEFAULT.withSurcharges(1, 0, 2), 5)
+                instanceof ColumnKernel.GenericKernel);
+        assertTrue(ColumnKernel.forRule(MoveRule.reach(2, false), 5) instanceof ColumnKernel.GenericKernel);
+    }
+
+    @Test
+    public void noWrapKernelMatchesGenericKernel() throws Exception {
+        Random random = new Random(26);
+        MoveRule[] rules = {
+                MoveRule.threeNeighbours(false),
+                MoveRule.threeNeighbours(false).withSurcharges(2, 0, 1),
+        };
+        for (int n = 0; n < 500; n++) {
+            MoveRule rule = rules[n % rules.length];
+            PathSolver solver = new PathSolver(rule);
+            int[][] columns = new int[1 + random.nextInt(8)][1 + random.nextInt(8)];
+            for (int[] column : columns) {
+                for (int i = 0; i < column.length; i++) {
+                    column[i] = random.nextInt(10);
+                }
+            }
+            CostMatrix matrix = CostMatrix.fromColumns(columns);
+            ColumnKernel generic = new ColumnKernel.GenericKernel(rule, columns[0].length);
+            assertEquals(solver.solve(matrix).toString(), solver.solve(matrix, generic).toString());
+        }
+    }
+}
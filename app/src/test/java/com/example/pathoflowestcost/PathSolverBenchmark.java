@@ -0,0 +1,256 @@
+package com.example.pathoflowestcost;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Rough timing of the PathSolver for the default rule
+ * <p>
+ * The baselines are a single hand-inlined loop hard-coding the three moves,
+ * with and without remembering the move taken from each cell,
+ * and the original column-pair implementation kept in ReferencePathfinder.
+ * The solver with its selected kernel should be close to the inlined loop that remembers moves,
+ * which is the least work that can still rebuild the path.
+ * The matrix is mostly negative so its cheapest path stays within Path.MAX_COST,
+ * as the inlined loops know nothing of the limit;
+ * the same matrix with only positive values is timed on its own to show the cost of the fallback search.
+ * <p>
+ * The variants take turns, each round starting from the next one,
+ * so none of them always runs just after the JIT or the garbage collector has had a go.
+ * Every round times a batch of runs, and the min and median over the rounds are reported.
+ * <p>
+ * Only runs when -Dpathfinder.benchmark is set (./gradlew test -Pbenchmark).
+ */
+public class PathSolverBenchmark {
+    private static final int ROWS = 50;
+    private static final int COLUMNS = 500;
+    private static final int WARMUP_ROUNDS = 10;
+    private static final int ROUNDS = 50;
+    private static final int BATCH = 20;
+    //The original implementation copies every path for every column, so it gets a smaller budget
+    private static final int TEXT_ROUNDS = 15;
+    private static final int TEXT_BATCH = 2;
+
+    @Test
+    public void defaultRuleOverhead() throws Exception {
+        Assume.assumeTrue(System.getProperty("pathfinder.benchmark") != null);
+
+        Random random = new Random(26);
+        final int[][] values = new int[COLUMNS][ROWS];
+        final int[][] overLimit = new int[COLUMNS][ROWS];
+        for (int x = 0; x < COLUMNS; x++) {
+            for (int i = 0; i < ROWS; i++) {
+                values[x][i] = random.nextInt(256) - 200;
+                overLimit[x][i] = values[x][i] + 200;
+            }
+        }
+        final CostMatrix matrix = CostMatrix.fromColumns(values);
+        final CostMatrix overLimitMatrix = CostMatrix.fromColumns(overLimit);
+        final String input = toInput(values);
+        final PathSolver solver = new PathSolver(MoveRule.DEFAULT);
+        final ColumnKernel generic = new ColumnKernel.GenericKernel(MoveRule.DEFAULT, ROWS);
+
+        //The baseline must compute the same thing as the engine to be a fair comparison
+        assertTrue(solver.solve(matrix).isSuccess());
+        assertEquals(solver.solve(matrix).getTotalCost(), inlinedWithChoices(values));
+        assertEquals(solver.solve(matrix).getTotalCost(), inlinedCostOnly(values));
+        assertFalse(solver.solve(overLimitMatrix).isSuccess());
+
+        Runnable[] runs = {
+                new Runnable() {
+                    public void run() {
+                        inlinedCostOnly(values);
+                    }
+                },
+                new Runnable() {
+                    public void run() {
+                        inlinedWithChoices(values);
+                    }
+                },
+                new Runnable() {
+                    public void run() {
+                        solver.solve(matrix);
+                    }
+                },
+                new Runnable() {
+                    public void run() {
+                        solver.solve(matrix, generic);
+                    }
+                },
+                new Runnable() {
+                    public void run() {
+                        solver.solve(overLimitMatrix);
+                    }
+                },
+        };
+        String[] names = {"inlined, cost only", "inlined, with moves", "engine", "generic kernel",
+                "engine, over limit"};
+
+        Runnable[] textRuns = {
+                new Runnable() {
+                    public void run() {
+                        ReferencePathfinder.findPath(input);
+                    }
+                },
+                new Runnable() {
+                    public void run() {
+                        Pathfinder.findPath(input);
+                    }
+                },
+        };
+        String[] textNames = {"original findPath", "findPath"};
+
+        //Warm up everything before timing any of it
+        measure(runs, WARMUP_ROUNDS, BATCH);
+        measure(textRuns, 2, TEXT_BATCH);
+
+        long[][] times = measure(runs, ROUNDS, BATCH);
+        long[][] textTimes = measure(textRuns, TEXT_ROUNDS, TEXT_BATCH);
+
+        System.out.println("Default rule, " + ROWS + "x" + COLUMNS + ", ns per matrix over "
+                + ROUNDS + " rounds of " + BATCH + ":");
+        System.out.println(String.format("  %-20s %12s %12s", "", "min", "median"));
+        for (int i = 0; i < runs.length; i++) {
+            System.out.println(String.format("  %-20s %12d %12d", names[i], times[i][0], median(times[i])));
+        }
+        System.out.println(String.format("  engine overhead over inlined, with moves: %+.1f%% (medians)",
+                100.0 * (median(times[2]) - median(times[1])) / median(times[1])));
+        System.out.println("From text, including parsing, over " + TEXT_ROUNDS + " rounds of " + TEXT_BATCH + ":");
+        for (int i = 0; i < textRuns.length; i++) {
+            System.out.println(String.format("  %-20s %12d %12d", textNames[i], textTimes[i][0], median(textTimes[i])));
+        }
+    }
+
+    /**
+     * Times the runs in turns, each round starting one run further along
+     *
+     * @param runs
+     * @param rounds
+     * @param batch  the number of times each run is repeated in a round
+     * @return for each run, the time of one run in nanoseconds in every round, sorted
+     */
+    private static long[][] measure(Runnable[] runs, int rounds, int batch) {
+        long[][] times = new long[runs.length][rounds];
+        for (int round = 0; round < rounds; round++) {
+            for (int k = 0; k < runs.length; k++) {
+                int i = (round + k) % runs.length;
+                long start = System.nanoTime();
+                for (int n = 0; n < batch; n++) {
+                    runs[i].run();
+                }
+                times[i][round] = (System.nanoTime() - start) / batch;
+            }
+        }
+        for (long[] time : times) {
+            Arrays.sort(time);
+        }
+        return times;
+    }
+
+    private static long median(long[] sorted) {
+        return sorted[sorted.length / 2];
+    }
+
+    /**
+     * The default rule in one loop, with no kernel, storage or move bookkeeping
+     *
+     * @param columns
+     * @return the cost of the cheapest path
+     */
+    private static long inlinedCostOnly(int[][] columns) {
+        int numRows = columns[0].length;
+        long[] costs = new long[numRows];
+        long[] scratch = new long[numRows];
+        for (int i = 0; i < numRows; i++) {
+            costs[i] = columns[columns.length - 1][i];
+        }
+        for (int x = columns.length - 2; x >= 0; x--) {
+            int[] column = columns[x];
+            for (int i = 0; i < numRows; i++) {
+                long best = costs[i == numRows - 1 ? 0 : i + 1];
+                best = Math.min(best, costs[i]);
+                best = Math.min(best, costs[i == 0 ? numRows - 1 : i - 1]);
+                scratch[i] = best + column[i];
+            }
+            long[] swap = costs;
+            costs = scratch;
+            scratch = swap;
+        }
+        long cheapest = costs[0];
+        for (int i = 1; i < numRows; i++) {
+            cheapest = Math.min(cheapest, costs[i]);
+        }
+        return cheapest;
+    }
+
+    /**
+     * The default rule in one loop, remembering the move taken from each cell
+     * and following them back from the best starting row
+     *
+     * @param columns
+     * @return the cost of the cheapest path, summed along the rebuilt path
+     */
+    private static long inlinedWithChoices(int[][] columns) {
+        int numRows = columns[0].length;
+        long[] costs = new long[numRows];
+        long[] scratch = new long[numRows];
+        byte[] choices = new byte[(columns.length - 1) * numRows];  //Indexed x * numRows + y, as in PathSolver
+        for (int i = 0; i < numRows; i++) {
+            costs[i] = columns[columns.length - 1][i];
+        }
+        for (int x = columns.length - 2; x >= 0; x--) {
+            int[] column = columns[x];
+            int offset = x * numRows;
+            for (int i = 0; i < numRows; i++) {
+                long costA = costs[i == numRows - 1 ? 0 : i + 1];
+                long costB = costs[i];
+                long costC = costs[i == 0 ? numRows - 1 : i - 1];
+                long best = costA;
+                byte move = 1;
+                if (costB < best) {
+                    best = costB;
+                    move = 0;
+                }
+                if (costC < best) {
+                    best = costC;
+                    move = -1;
+                }
+                scratch[i] = best + column[i];
+                choices[offset + i] = move;
+            }
+            long[] swap = costs;
+            costs = scratch;
+            scratch = swap;
+        }
+
+        int y = 0;
+        for (int i = 1; i < numRows; i++) {
+            if (costs[i] < costs[y]) {
+                y = i;
+            }
+        }
+        long total = 0;
+        for (int x = 0; x < columns.length; x++) {
+            total = total + columns[x][y];
+            if (x < columns.length - 1) {
+                y = (y + choices[x * numRows + y] + numRows) % numRows;
+            }
+        }
+        return total;
+    }
+
+    private static String toInput(int[][] columns) {
+        StringBuilder stringBuilder = new StringBuilder();
+        for (int j = 0; j < columns[0].length; j++) {
+            for (int i = 0; i < columns.length; i++) {
+                stringBuilder.append(columns[i][j]).append(i < columns.length - 1 ? "," : "\n");
+            }
+        }
+        return stringBuilder.toString();
+    }
+}
@@ -122,4 +122,57 @@ public class PathfinderTest {
         assertTrue(Pathfinder.findPath(s).isSuccess());
         assertEquals(20, Pathfinder.findPath(s).getTotalCost());
     }
+
+    @Test
+    public void testOverflow() throws Exception {
+        //In int arithmetic the running total wraps to 0 after two columns and the path is abandoned
+        String s = "-2147483648,-2147483648,2147483647,2147483647\n2147483647,2147483647,2147483647,2147483647";
+        assertTrue(Pathfinder.findPath(s).isSuccess());
+        assertEquals(-2, Pathfinder.findPath(s).getTotalCost());
+    }
+
+    @Test
+    public void testAbandonedOnFirstStep() throws Exception {
+        String s = "2147483647,2147483647,2147483647\n2147483647,2147483647,2147483647";
+        assertFalse(Pathfinder.findPath(s).isSuccess());
+        assertEquals("No\n0\n[]", Pathfinder.findPath(s).toString());
+    }
+
+    @Test
+    public void testNegativeOverflow() throws Exception {
+        String s = "-2147483648,-2147483648,-2147483648\n0,0,0";
+        assertTrue(Pathfinder.findPath(s).isSuccess());
+        assertEquals(3L * Integer.MIN_VALUE, Pathfinder.findPath(s).getTotalCost());
+    }
+
+    @Test
+    public void testOverflowOverManyColumns() throws Exception {
+        StringBuilder s = new StringBuilder("-1000000000");
+        for (int i = 1; i < 100; i++) {
+            s.append(",-1000000000");
+        }
+        assertEquals(-100000000000L, Pathfinder.findPath(s.toString()).getTotalCost());
+        assertEquals(-100000000000L, Pathfinder.findPath(s.toString(), MoveRule.reach(2, false)).getTotalCost());
+    }
+
+    @Test
+    public void testSample3Path() throws Exception {
+        String s = "19,10,19,10,19\n21,23,20,19,12\n20,12,20,11,10";
+        assertEquals("No\n48\n[1 1 1]", Pathfinder.findPath(s).toString());
+    }
+
+    @Test
+    public void testSample8Path() throws Exception {
+        String s = "69,10,19,10,19\n51,23,20,19,12\n60,12,20,11,10";
+        assertEquals("No\n0\n[]", Pathfinder.findPath(s).toString());
+    }
+
+    @Test
+    public void testAbandonedThenCheaperPath() throws Exception {
+        //The cheapest path goes over 50 before its negative costs bring it back down,
+        //so the cheapest path that stays within the limit wins
+        String s = "60,-100\n60,0\n30,0\n30,0\n60,0";
+        assertTrue(Pathfinder.findPath(s).isSuccess());
+        assertEquals("Yes\n30\n[3 2]", Pathfinder.findPath(s).toString());
+    }
 }
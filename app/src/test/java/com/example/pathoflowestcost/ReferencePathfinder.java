@@ -0,0 +1,531 @@
+package com.example.pathoflowestcost;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.example.pathoflowestcost.Pathfinder.getNextYAbove;
+import static com.example.pathoflowestcost.Pathfinder.getNextYBelow;
+
+/**
+ * Frozen copies of slow but trusted ways of finding the cheapest path,
+ * used as oracles by DifferentialTest
+ * <p>
+ * Do not optimise this class, its only job is to stay obviously correct.
+ * <p>
+ * findPath(), convertToColumns(), twoRowCase() and generalCase() are the original
+ * implementation of Pathfinder, word for word, except for:
+ * <ul>
+ * <li>findPath() is package-private instead of public</li>
+ * <li>every path built by twoRowCase() and generalCase() is validated straight away,
+ * as the original compared the totals of paths that had never been validated (always 0)</li>
+ * <li>the sums in twoRowCase() and generalCase() are longs, to match the solver,
+ * where the original's int sums wrapped around on overflow</li>
+ * </ul>
+ */
+final class ReferencePathfinder {
+    /**
+     * The most a path may cost, kept apart from Path.MAX_COST on purpose
+     */
+    private static final int LIMIT = 50;
+
+    private ReferencePathfinder() {
+    }
+
+    /**
+     * Entry point and only public function of the class
+     * <p>
+     * Finds the cheapest path based on the rule set
+     * The algorithm works as follows:
+     * Start from the right, and work your way backwards to the left
+     * by (sort-of) recursively comparing only two columns.
+     * However, the second column is not the cells that would be to the right of the "left" column
+     * but instead a representation of the cheapest possible path further right
+     * This is achieved by establishing base cases as described bellow
+     *
+     * @param input
+     * @return the cheapest path
+     */
+    static Path findPath(String input) {
+        //Storage for the matrix
+        List<List<Integer>> listOfRows = Pathfinder.getTableFromCommaDelimitedString(input);
+        List<List<Cell>> listOfColumns = convertToColumns(listOfRows);
+
+        //The number of columns in the matrix, this is also the amount of steps in the path
+        int numColumns = listOfColumns.size();
+
+        //Storage for the cheapest path
+        Path cheapest = null;
+
+        //Base case where there is only one column
+        //In this case, the cheapest path is the row with the cheapest single value
+        if (numColumns == 1) {
+            Cell currentMin = null;
+            for (Cell cell : listOfColumns.get(0)) {
+                if (currentMin == null || cell.getCost() < currentMin.getCost()) {
+                    currentMin = cell;
+                }
+            }
+            cheapest = new Path(currentMin);
+        } else if (numColumns == 2) {   //Base case where there are exactly two rows
+            List<Path> paths = twoRowCase(listOfColumns.get(--numColumns), listOfColumns.get(--numColumns));
+            for (Path p : paths) {
+                if (cheapest == null || p.getTotalCost() < cheapest.getTotalCost()) {
+                    cheapest = p;
+                }
+            }
+        } else if (numColumns == 3) {   //Base case where there are exactly three rows
+            List<Path> lastTwoColumnsOnlyPath =
+                    twoRowCase(listOfColumns.get(--numColumns), listOfColumns.get(--numColumns));
+            List<Path> paths = generalCase(listOfColumns.get(--numColumns), lastTwoColumnsOnlyPath);
+            for (Path p : paths) {
+                if (cheapest == null || p.getTotalCost() < cheapest.getTotalCost()) {
+                    cheapest = p;
+                }
+            }
+        } else {    //General case
+            //Effectively performs the first three cases reading the matrix from right to left
+
+            //Path when looking only at the last two columns
+            List<Path> lastTwoColumnsOnlyPath =
+                    twoRowCase(listOfColumns.get(--numColumns), listOfColumns.get(--numColumns));
+
+            //Path when looking at the last three columns
+            List<Path> pathsWithPreviousColumn =
+                    generalCase(listOfColumns.get(--numColumns), lastTwoColumnsOnlyPath);
+
+            //While there are rows remaining, keep adding them to the algorithm
+            while (numColumns > 0) {
+                ArrayList<Path> copyOfPrevious = new ArrayList<>();
+                for (Path p : pathsWithPreviousColumn) {
+                    copyOfPrevious.add(new Path(p));
+                }
+                pathsWithPreviousColumn = generalCase(listOfColumns.get(--numColumns), copyOfPrevious);
+            }
+
+            //Of all good paths found, find the best
+            for (Path p : pathsWithPreviousColumn) {
+                if (cheapest == null || p.getTotalCost() < cheapest.getTotalCost()) {
+                    cheapest = p;
+                }
+            }
+        }
+
+        if (cheapest != null) {
+            cheapest.validatePath();
+        }
+        return cheapest;
+    }
+
+
+    /**
+     * Convert the above result into the format used by the new implementation
+     * Simply reverses the way the data is being stored
+     * Does not affect the data
+     *
+     * @param table a list of rows
+     * @return a list of columns
+     */
+    private static List<List<Cell>> convertToColumns(List<List<Integer>> table) {
+        List<Cell> column = new ArrayList<>();
+        List<List<Cell>> listOfColumns = new ArrayList<>();
+
+        int numColumns = table.get(0).size();
+
+        //for each column
+        for (int i = 0; i < numColumns; i++) {
+            for (int j = 0; j < table.size(); j++) {
+                column.add(new Cell(j, i, table.get(j).get(i)));
+            }
+            listOfColumns.add(column);
+            column = new ArrayList<>();
+        }
+
+        return listOfColumns;
+    }
+
+    /**
+     * Implementation of the case where there are two rows
+     *
+     * @param right right column
+     * @param left  left column
+     * @return a set of good paths based on each rows initial cell
+     */
+    private static List<Path> twoRowCase(List<Cell> right, List<Cell> left) {
+        ArrayList<Path> paths = new ArrayList<>();
+
+        //For each row in the left column
+        //Determine which of its three options would produce the cheapest path
+        //Add this path to a set of possible good paths
+        for (int i = 0; i < left.size(); i++) {
+            int indexA = getNextYAbove(i, left.size()); //Index of the cell above-right
+            int indexC = getNextYBelow(i, left.size()); //Index of the cell bellow-right
+            //Note that i is the index of the cell to the right
+
+            //Determine what the combined cost would be with all three options
+            long sumWithA = (long) right.get(indexA).getCost() + left.get(i).getCost();
+            long sumWithB = (long) right.get(i).getCost() + left.get(i).getCost();
+            long sumWithC = (long) right.get(indexC).getCost() + left.get(i).getCost();
+
+            //Compare which option is cheapest
+            //Then create a path with those two cells
+            if (sumWithA <= sumWithB) {
+                if (sumWithA <= sumWithC) {
+                    Path p = new Path(right.get(indexA));
+                    p.add(left.get(i));
+                    p.validatePath();
+                    paths.add(p);
+                } else {
+                    Path p = new Path(right.get(indexC));
+                    p.add(left.get(i));
+                    p.validatePath();
+                    paths.add(p);
+                }
+            } else {
+                if (sumWithB <= sumWithC) {
+                    Path p = new Path(right.get(i));
+                    p.add(left.get(i));
+                    p.validatePath();
+                    paths.add(p);
+                } else {
+                    Path p = new Path(right.get(indexC));
+                    p.add(left.get(i));
+                    p.validatePath();
+                    paths.add(p);
+                }
+            }
+        }
+
+        return paths;
+    }
+
+    /**
+     * Implementation of the case where there are more than two rows
+     *
+     * @param right a parallel set of paths to the left column,
+     *              which contain what the optimal steps are further to thr right
+     * @param left  the left column
+     * @return a set of good paths based on each rows initial cell
+     */
+    private static List<Path> generalCase(List<Cell> left, List<Path> right) {
+        ArrayList<Path> paths = new ArrayList<>();
+
+        //For each row in the left column
+        //Determine which of its three options would produce the cheapest path
+        //This time, do so by adding it
+        // to the value that represents the cheapest possible value
+        // for all columns further right
+        //Add this path to a set of possible good paths
+        for (int i = 0; i < left.size(); i++) {
+            int indexA = getNextYAbove(i, left.size()); //Index of the cell above-right
+            int indexC = getNextYBelow(i, left.size()); //Index of the cell bellow-right
+            //Note that i is the index of the cell to the right
+
+            //Determine what the combined cost would be with all three options
+            //In this case, the right column represents not a single column,
+            // but the cheapest path achievable to the right of the "left" column
+            long sumWithA = right.get(indexA).getTotalCost() + left.get(i).getCost();
+            long sumWithB = right.get(i).getTotalCost() + left.get(i).getCost();
+            long sumWithC = right.get(indexC).getTotalCost() + left.get(i).getCost();
+
+            //Compare which option is cheapest
+            //Then create a path with those two cells
+            if (sumWithA <= sumWithB) {
+                if (sumWithA <= sumWithC) {
+                    Path p = new Path(right.get(indexA));
+                    p.add(left.get(i));
+                    p.validatePath();
+                    paths.add(p);
+                } else {
+                    Path p = new Path(right.get(indexC));
+                    p.add(left.get(i));
+                    p.validatePath();
+                    paths.add(p);
+                }
+            } else {
+                if (sumWithB <= sumWithC) {
+                    Path p = new Path(right.get(i));
+                    p.add(left.get(i));
+                    p.validatePath();
+                    paths.add(p);
+                } else {
+                    Path p = new Path(right.get(indexC));
+                    p.add(left.get(i));
+                    p.validatePath();
+                    paths.add(p);
+                }
+            }
+        }
+
+        return paths;
+    }
+
+    /**
+     * The original implementation, plus the rule that abandons a path
+     * as soon as its next step would take its running total over 50
+     * <p>
+     * If the path findPath() returns never goes over, it is the answer.
+     * Otherwise forwardSearch() looks for the best path that stays within the limit.
+     *
+     * @param input
+     * @return the expected result, as Path.toString() would print it
+     */
+    static String findPathWithinLimit(String input) {
+        List<List<Integer>> listOfRows = Pathfinder.getTableFromCommaDelimitedString(input);
+        int[][] columns = new int[listOfRows.get(0).size()][listOfRows.size()];
+        for (int y = 0; y < listOfRows.size(); y++) {
+            for (int x = 0; x < columns.length; x++) {
+                columns[x][y] = listOfRows.get(y).get(x);
+            }
+        }
+
+        String cheapest = findPath(input).toString();
+        String[] rows = cheapest.substring(cheapest.indexOf('[') + 1, cheapest.length() - 1).split(" ");
+        long runningTotal = 0;
+        for (int x = 0; x < columns.length; x++) {
+            runningTotal = runningTotal + columns[x][Integer.parseInt(rows[x]) - 1];
+            if (runningTotal > LIMIT) {
+                return forwardSearch(columns, MoveRule.DEFAULT);
+            }
+        }
+        return cheapest;
+    }
+
+    /**
+     * Left to right search keeping the cheapest running total into every cell,
+     * dropping any that goes over the limit
+     * <p>
+     * Ties go to the first listed move into the cell, then to the lowest final row.
+     *
+     * @param columns the matrix, as a list of columns
+     * @param rule
+     * @return the cheapest path reaching furthest right, as Path.toString() would print it
+     */
+    private static String forwardSearch(int[][] columns, MoveRule rule) {
+        int numRows = columns[0].length;
+        long[][] costs = new long[columns.length][numRows];
+        int[][] from = new int[columns.length][numRows];    //Row in the previous column, or -1 if unreached
+        int[][] moveIn = new int[columns.length][numRows];  //Move taken into the cell
+        for (int x = 0; x < columns.length; x++) {
+            Arrays.fill(from[x], -1);
+        }
+
+        int lastColumn = -1;
+        for (int y = 0; y < numRows; y++) {
+            if (columns[0][y] <= LIMIT) {
+                costs[0][y] = columns[0][y];
+                from[0][y] = y;
+                lastColumn = 0;
+            }
+        }
+        for (int x = 1; x < columns.length && lastColumn == x - 1; x++) {
+            for (int y = 0; y < numRows; y++) {
+                if (from[x - 1][y] < 0) {
+                    continue;
+                }
+                for (int move = 0; move < rule.size(); move++) {
+                    int nextY = targetRow(y, rule.getOffset(move), rule.wraps(), numRows);
+                    if (nextY < 0) {
+                        continue;
+                    }
+                    long cost = costs[x - 1][y] + rule.getSurcharge(move) + columns[x][nextY];
+                    if (cost > LIMIT) {
+                        continue;
+                    }
+                    if (from[x][nextY] < 0 || cost < costs[x][nextY]
+                            || (cost == costs[x][nextY] && move < moveIn[x][nextY])) {
+                        costs[x][nextY] = cost;
+                        from[x][nextY] = y;
+                        moveIn[x][nextY] = move;
+                        lastColumn = x;
+                    }
+                }
+            }
+        }
+        if (lastColumn < 0) {
+            return format(false, 0, new int[0]);
+        }
+
+        int end = -1;
+        for (int y = 0; y < numRows; y++) {
+            if (from[lastColumn][y] >= 0 && (end < 0 || costs[lastColumn][y] < costs[lastColumn][end])) {
+                end = y;
+            }
+        }
+        int[] rows = new int[lastColumn + 1];
+        rows[lastColumn] = end;
+        for (int x = lastColumn; x > 0; x--) {
+            rows[x - 1] = from[x][rows[x]];
+        }
+        return format(lastColumn == columns.length - 1, costs[lastColumn][end], rows);
+    }
+
+    /**
+     * Tries every possible path, for any MoveRule
+     * <p>
+     * First the cheapest path crossing the whole matrix, ignoring the limit:
+     * paths are tried by starting row, then by move in the rule's order,
+     * and only a strictly cheaper path replaces the best so far.
+     * This gives the same tie-breaking as the solver:
+     * the lowest starting row, then the first listed move.
+     * If its running total never goes over the limit, it is the answer.
+     * <p>
+     * Otherwise every path that stays within the limit, complete or not, is tried.
+     * The best reaches furthest right, then costs least,
+     * then ends on the lowest row, then took the first listed moves,
+     * compared from the last move back to the first,
+     * which is the tie-breaking of the solver's left to right search.
+     * Only usable on small matrices.
+     * <p>
+     * The result is written out in the format of Path.toString()
+     * from the total and rows found here, without going through Path,
+     * so a bug in how Path adds up costs or surcharges cannot hide itself.
+     *
+     * @param columns the matrix, as a list of columns
+     * @param rule
+     * @return the expected result, as Path.toString() would print it
+     */
+    static String bruteForce(int[][] columns, MoveRule rule) {
+        int[] rows = new int[columns.length];
+        int[] moves = new int[columns.length];
+        Best best = new Best();
+        for (int start = 0; start < columns[0].length; start++) {
+            rows[0] = start;
+            cheapest(columns, rule, rows, moves, 0, columns[0][start], best);
+        }
+        if (best.rows != null && withinLimit(columns, rule, best.rows, best.moves)) {
+            return format(true, best.cost, best.rows);
+        }
+
+        best = new Best();
+        for (int start = 0; start < columns[0].length; start++) {
+            if (columns[0][start] <= LIMIT) {
+                rows[0] = start;
+                furthest(columns, rule, rows, moves, 0, columns[0][start], best);
+            }
+        }
+        if (best.rows == null) {
+            return format(false, 0, new int[0]);
+        }
+        return format(best.rows.length == columns.length, best.cost, best.rows);
+    }
+
+    private static void cheapest(int[][] columns, MoveRule rule, int[] rows, int[] moves,
+                                 int x, long cost, Best best) {
+        if (x == columns.length - 1) {
+            if (best.rows == null || cost < best.cost) {
+                best.cost = cost;
+                best.rows = rows.clone();
+                best.moves = moves.clone();
+            }
+            return;
+        }
+        for (int move = 0; move < rule.size(); move++) {
+            int nextY = targetRow(rows[x], rule.getOffset(move), rule.wraps(), columns[0].length);
+            if (nextY < 0) {
+                continue;
+            }
+            rows[x + 1] = nextY;
+            moves[x] = move;
+            cheapest(columns, rule, rows, moves, x + 1,
+                    cost + rule.getSurcharge(move) + columns[x + 1][nextY], best);
+        }
+    }
+
+    private static void furthest(int[][] columns, MoveRule rule, int[] rows, int[] moves,
+                                 int x, long cost, Best best) {
+        if (isBetter(x + 1, cost, rows, moves, best)) {
+            best.cost = cost;
+            best.rows = Arrays.copyOf(rows, x + 1);
+            best.moves = Arrays.copyOf(moves, x);
+        }
+        if (x == columns.length - 1) {
+            return;
+        }
+        for (int move = 0; move < rule.size(); move++) {
+            int nextY = targetRow(rows[x], rule.getOffset(move), rule.wraps(), columns[0].length);
+            if (nextY < 0) {
+                continue;
+            }
+            long nextCost = cost + rule.getSurcharge(move) + columns[x + 1][nextY];
+            if (nextCost > LIMIT) {
+                continue;
+            }
+            rows[x + 1] = nextY;
+            moves[x] = move;
+            furthest(columns, rule, rows, moves, x + 1, nextCost, best);
+        }
+    }
+
+    private static boolean isBetter(int length, long cost, int[] rows, int[] moves, Best best) {
+        if (best.rows == null || length != best.rows.length) {
+            return best.rows == null || length > best.rows.length;
+        }
+        if (cost != best.cost) {
+            return cost < best.cost;
+        }
+        if (rows[length - 1] != best.rows[length - 1]) {
+            return rows[length - 1] < best.rows[length - 1];
+        }
+        for (int x = length - 2; x >= 0; x--) {
+            if (moves[x] != best.moves[x]) {
+                return moves[x] < best.moves[x];
+            }
+        }
+        return false;
+    }
+
+    private static boolean withinLimit(int[][] columns, MoveRule rule, int[] rows, int[] moves) {
+        long runningTotal = columns[0][rows[0]];
+        if (runningTotal > LIMIT) {
+            return false;
+        }
+        for (int x = 1; x < columns.length; x++) {
+            runningTotal = runningTotal + rule.getSurcharge(moves[x - 1]) + columns[x][rows[x]];
+            if (runningTotal > LIMIT) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The best path found so far by bruteForce()
+     */
+    private static final class Best {
+        long cost;
+        int[] rows;
+        int[] moves;
+    }
+
+    /**
+     * Writes a path out the way Path.toString() does
+     *
+     * @param success whether the path crossed the whole matrix within the limit
+     * @param cost
+     * @param rows    the row of every cell in the path
+     * @return the path as text
+     */
+    private static String format(boolean success, long cost, int[] rows) {
+        StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder.append(success ? "Yes\n" : "No\n").append(cost).append("\n[");
+        for (int x = 0; x < rows.length; x++) {
+            stringBuilder.append(rows[x] + 1).append(x < rows.length - 1 ? " " : "");
+        }
+        return stringBuilder.append("]").toString();
+    }
+
+    /**
+     * Works out the row a move leads to without MoveRule.targetRow(),
+     * so the oracle does not share the engines' wrapping arithmetic
+     *
+     * @return the row in the next column, or -1 if the move leaves the matrix
+     */
+    private static int targetRow(int currentY, int offset, boolean wraps, int numRows) {
+        if (wraps) {
+            return Math.floorMod(currentY + offset, numRows);
+        }
+        int nextY = currentY + offset;
+        return nextY >= 0 && nextY < numRows ? nextY : -1;
+    }
+}